@@ -0,0 +1,133 @@
+const mockRNLogger = {
+  appendLines: jest.fn(),
+  exportLogs: jest.fn().mockResolvedValue(null),
+  clearLogs: jest.fn().mockResolvedValue(null),
+};
+
+jest.mock('react-native', () => ({
+  NativeModules: {
+    RNLogger: mockRNLogger,
+  },
+}));
+
+jest.mock('react-native-fs', () => {
+  return {
+    appendFile: jest.fn(),
+    exists: jest.fn().mockResolvedValue(false),
+    moveFile: jest.fn(),
+    readFile: jest.fn().mockReturnValue(Promise.resolve('')),
+    stat: jest.fn().mockResolvedValue({ size: 100 }),
+    unlink: jest.fn(),
+    writeFile: jest.fn(),
+    CachesDirectoryPath: '/cache',
+  };
+});
+
+// Only the Error type is used by the logger
+jest.mock('../src/hooks/errors/useErrors', () => ({}));
+
+describe('logger', () => {
+  // The logger keeps its queue and log level in module state, so every test gets a fresh copy
+  let logger: typeof import('../src/provider/log/logger');
+
+  beforeEach(() => {
+    jest.useFakeTimers();
+    jest.clearAllMocks();
+    jest.isolateModules(() => {
+      logger = require('../src/provider/log/logger');
+    });
+  });
+
+  afterEach(() => {
+    jest.useRealTimers();
+  });
+
+  const appendedLines = (call = 0): string[] => mockRNLogger.appendLines.mock.calls[call][0];
+
+  describe('level filtering', () => {
+    it('should never send filtered levels to the native logger', () => {
+      logger.setLogLevel('warn');
+
+      logger.default.Log('info message', { some: 'object' });
+      logger.addLogs('plain info');
+      logger.addLogs({ type: 'info', title: 'Cache', message: 'info error' });
+      jest.runAllTimers();
+
+      expect(mockRNLogger.appendLines).not.toHaveBeenCalled();
+    });
+
+    it('should send levels at or above the minimum level', () => {
+      logger.setLogLevel('warn');
+
+      logger.default.Log('dropped');
+      logger.default.Warn('kept');
+      jest.runAllTimers();
+
+      expect(mockRNLogger.appendLines).toHaveBeenCalledTimes(1);
+      expect(appendedLines()).toHaveLength(1);
+      expect(appendedLines()[0]).toMatch(/^WARN .*: kept\n$/);
+    });
+
+    it('should log everything by default', () => {
+      logger.default.Log('info message');
+      jest.runAllTimers();
+
+      expect(mockRNLogger.appendLines).toHaveBeenCalledTimes(1);
+      expect(appendedLines()[0]).toMatch(/^INFO .*: info message\n$/);
+    });
+  });
+
+  describe('batching', () => {
+    it('should send non-error lines in a single call per flush window', () => {
+      logger.addLogs('first');
+      logger.default.Log('second');
+      logger.default.Warn('third');
+
+      jest.advanceTimersByTime(249);
+      expect(mockRNLogger.appendLines).not.toHaveBeenCalled();
+
+      jest.advanceTimersByTime(1);
+      expect(mockRNLogger.appendLines).toHaveBeenCalledTimes(1);
+      expect(appendedLines()).toHaveLength(3);
+      expect(mockRNLogger.appendLines.mock.calls[0][1]).toBe(false);
+    });
+
+    it('should coalesce errors into a single urgent flush', () => {
+      logger.addLogs('info before the errors');
+      logger.default.Error('first error');
+      logger.addLogs({ type: 'critical', title: 'Chat', message: 'second error' });
+
+      jest.advanceTimersByTime(0);
+
+      expect(mockRNLogger.appendLines).toHaveBeenCalledTimes(1);
+      expect(appendedLines()).toHaveLength(3);
+      expect(mockRNLogger.appendLines.mock.calls[0][1]).toBe(true);
+    });
+  });
+
+  describe('overflow', () => {
+    it('should drop new lines once the queue is full and mark the gap after the kept ones', () => {
+      for (let i = 0; i < 505; i++) {
+        logger.addLogs(`line ${i}`);
+      }
+      jest.runAllTimers();
+
+      const lines = appendedLines();
+      expect(lines).toHaveLength(501);
+      expect(lines[499]).toMatch(/: line 499\n$/);
+      expect(lines[500]).toMatch(/^WARN .*Dropped 5 log lines\n$/);
+    });
+  });
+
+  describe('clearLogs', () => {
+    it('should discard pending lines', async () => {
+      logger.addLogs('pending');
+
+      await logger.clearLogs();
+      jest.runAllTimers();
+
+      expect(mockRNLogger.clearLogs).toHaveBeenCalledTimes(1);
+      expect(mockRNLogger.appendLines).not.toHaveBeenCalled();
+    });
+  });
+});
@@ -23,6 +23,7 @@ public class MyAppPackage implements ReactPackage {
         modules.add(new OdinBlobModule(reactContext));
         modules.add(new RNAudioTranscoder(reactContext));
         modules.add(new RNShareIntent(reactContext));
+        modules.add(new RNLogger(reactContext));
         return modules;
     }
 
@@ -0,0 +1,322 @@
+package id.homebase.feed;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import android.util.Log;
+
+
+/**
+ * Buffered file logger for the JS side.
+ * Lines are pushed into a lock-free ring buffer and written in batches on a single background thread
+ * to a size-capped set of rotating files; when the buffer is full new lines are dropped and counted.
+ */
+public class RNLogger extends ReactContextBaseJavaModule {
+    private static final String TAG = "RNLogger";
+
+    private static final String LOG_FILE_PREFIX = "homebase-id-app-logs";
+    private static final String EXPORT_FILE_NAME = LOG_FILE_PREFIX + "-export.txt";
+
+    private static final int BUFFER_CAPACITY = 1024; // Must be a power of two
+    private static final int BUFFER_MASK = BUFFER_CAPACITY - 1;
+    private static final long FLUSH_DELAY_MS = 1000;
+
+    private static final long MAX_FILE_BYTES = 512 * 1024;
+    private static final int MAX_FILES = 4; // Current file + 3 rotated ones
+    // Longer lines are truncated. At most 3 bytes per char in UTF-8, so a single line always fits in a file
+    private static final int MAX_LINE_CHARS = 64 * 1024;
+
+    private static final class Entry {
+        final long seq;
+        final String line;
+
+        Entry(long seq, String line) {
+            this.seq = seq;
+            this.line = line;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> buffer = new AtomicReferenceArray<>(BUFFER_CAPACITY);
+    // Next sequence number to be claimed by a producer
+    private final AtomicLong head = new AtomicLong();
+    // Next sequence number to be consumed; only modified on the flush thread, after its slot is cleared
+    private volatile long tail = 0;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean drainQueued = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final File logDir;
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "RNLogger";
+    }
+
+    RNLogger(ReactApplicationContext context) {
+        super(context);
+        logDir = context.getCacheDir();
+    }
+
+    /**
+     * @param lines  Formatted log lines, including their trailing newline
+     * @param urgent Write to disk right away instead of waiting for the next batch (eg. for errors)
+     */
+    @ReactMethod
+    public void appendLines(ReadableArray lines, boolean urgent) {
+        if (closed.get()) return;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.getString(i);
+            if (line == null) continue;
+
+            if (!offer(line)) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        if (urgent || head.get() - tail >= BUFFER_CAPACITY / 2) {
+            // Don't wait for the scheduled flush for errors, or when we're about to start dropping lines.
+            // A single queued drain picks up everything appended until it runs
+            if (drainQueued.compareAndSet(false, true) && !submit(() -> {
+                drainQueued.set(false);
+                drain();
+            })) {
+                drainQueued.set(false);
+            }
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(() -> {
+                    flushScheduled.set(false);
+                    drain();
+                }, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                Log.w(TAG, "Logger is shut down, skipping flush");
+            }
+        }
+    }
+
+    /**
+     * Merge all log files, oldest first, into a single file for sharing. Resolves with its path, or null when
+     * there are no logs.
+     */
+    @ReactMethod
+    public void exportLogs(Promise promise) {
+        boolean submitted = submit(() -> {
+            try {
+                drain();
+                List<File> files = getLogFiles();
+                if (files.isEmpty()) {
+                    promise.resolve(null);
+                    return;
+                }
+
+                File exportFile = new File(logDir, EXPORT_FILE_NAME);
+                try (FileChannel out = new FileOutputStream(exportFile, false).getChannel()) {
+                    for (File file : files) {
+                        try (FileChannel in = new FileInputStream(file).getChannel()) {
+                            long size = in.size();
+                            long position = 0;
+                            while (position < size) {
+                                position += in.transferTo(position, size - position, out);
+                            }
+                        }
+                    }
+                }
+                promise.resolve(exportFile.getAbsolutePath());
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to export logs", e);
+                promise.reject(e);
+            }
+        });
+        if (!submitted) {
+            promise.reject(TAG, "Logger is shut down");
+        }
+    }
+
+    @ReactMethod
+    public void clearLogs(Promise promise) {
+        boolean submitted = submit(() -> {
+            consume(null);
+            dropped.set(0);
+
+            for (File file : getLogFiles()) {
+                if (!file.delete()) {
+                    Log.w(TAG, "Failed to delete " + file.getName());
+                }
+            }
+            new File(logDir, EXPORT_FILE_NAME).delete();
+            promise.resolve(null);
+        });
+        if (!submitted) {
+            promise.reject(TAG, "Logger is shut down");
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        if (closed.compareAndSet(false, true)) {
+            submit(this::drain);
+            executor.shutdown();
+        }
+        super.invalidate();
+    }
+
+    /**
+     * Claim the next sequence number, unless that would overwrite a slot the flush thread hasn't consumed yet.
+     */
+    private boolean offer(String line) {
+        while (true) {
+            long seq = head.get();
+            if (seq - tail >= BUFFER_CAPACITY) return false;
+
+            if (head.compareAndSet(seq, seq + 1)) {
+                buffer.set((int) (seq & BUFFER_MASK), new Entry(seq, line));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take published entries off the ring buffer, in order, adding them to the batch (if any).
+     * Must only run on the executor.
+     */
+    private void consume(List<String> batch) {
+        long seq = tail;
+        while (true) {
+            int index = (int) (seq & BUFFER_MASK);
+            Entry entry = buffer.get(index);
+            // Claimed but not yet published; the producer will schedule another flush
+            if (entry == null || entry.seq != seq) break;
+
+            buffer.set(index, null);
+            if (batch != null) batch.add(entry.line);
+            tail = ++seq;
+        }
+    }
+
+    /**
+     * Write everything that's currently in the ring buffer to disk. Must only run on the executor.
+     */
+    private void drain() {
+        List<String> batch = new ArrayList<>();
+        consume(batch);
+        // Lines are only dropped while the buffer is full, so they came after everything consumed above
+        long droppedLines = dropped.getAndSet(0);
+        if (droppedLines > 0) {
+            batch.add("WARN " + formatNow() + ": [RNLogger] Dropped " + droppedLines + " log lines\n");
+        }
+
+        if (batch.isEmpty()) return;
+        try {
+            write(batch);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write logs", e);
+        }
+    }
+
+    private boolean submit(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Logger is shut down, skipping task");
+            return false;
+        }
+    }
+
+    /**
+     * Append the batch to the current log file, rotating before any line would take it past MAX_FILE_BYTES.
+     */
+    private void write(List<String> batch) throws IOException {
+        File current = getLogFile(0);
+        long size = current.length();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(current, true));
+        try {
+            for (String line : batch) {
+                if (line.length() > MAX_LINE_CHARS) {
+                    line = line.substring(0, MAX_LINE_CHARS) + "... (truncated)\n";
+                }
+                byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+                if (size > 0 && size + bytes.length > MAX_FILE_BYTES) {
+                    out.close();
+                    rotate();
+                    out = new BufferedOutputStream(new FileOutputStream(current, true));
+                    size = 0;
+                }
+                out.write(bytes);
+                size += bytes.length;
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void rotate() {
+        File oldest = getLogFile(MAX_FILES - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            Log.w(TAG, "Failed to delete " + oldest.getName());
+        }
+
+        for (int i = MAX_FILES - 2; i >= 0; i--) {
+            File file = getLogFile(i);
+            if (file.exists() && !file.renameTo(getLogFile(i + 1))) {
+                Log.w(TAG, "Failed to rotate " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * Existing log files, ordered from oldest to newest.
+     */
+    private List<File> getLogFiles() {
+        List<File> files = new ArrayList<>();
+        for (int i = MAX_FILES - 1; i >= 0; i--) {
+            File file = getLogFile(i);
+            if (file.exists() && file.length() > 0) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private File getLogFile(int index) {
+        // Index 0 keeps the name of the original single log file, so existing logs carry over
+        return new File(logDir, index == 0 ? LOG_FILE_PREFIX + ".txt" : LOG_FILE_PREFIX + "." + index + ".txt");
+    }
+
+    private static String formatNow() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date());
+    }
+}
@@ -1,6 +1,15 @@
 import { NativeStackScreenProps } from '@react-navigation/native-stack';
 import { useLayoutEffect, useRef, useState } from 'react';
-import { Alert, ScrollView, Share, StyleSheet, TouchableOpacity, View } from 'react-native';
+import {
+  Alert,
+  Platform,
+  ScrollView,
+  Share,
+  StyleSheet,
+  TouchableOpacity,
+  View,
+} from 'react-native';
+import RNShare from 'react-native-share';
 import { Text } from '../../components/ui/Text/Text';
 import { getVersion, getBuildNumber } from 'react-native-device-info';
 import { version } from '../../../package.json';
@@ -180,7 +189,12 @@ const LogsModal = ({ visible, onDismiss }: { visible: boolean; onDismiss: () =>
       return;
     }
 
-    await Share.share(shareContent);
+    // React Native's Share only supports urls on iOS
+    if (Platform.OS === 'android' && shareContent.url) {
+      await RNShare.open({ url: shareContent.url, type: 'text/plain', failOnCancel: false });
+    } else {
+      await Share.share(shareContent);
+    }
 
     ref.current?.dismiss();
     onDismiss();
@@ -1,48 +1,187 @@
-import { appendFile, CachesDirectoryPath, exists, readFile, writeFile } from 'react-native-fs';
+import {
+  appendFile,
+  CachesDirectoryPath,
+  exists,
+  moveFile,
+  readFile,
+  stat,
+  unlink,
+  writeFile,
+} from 'react-native-fs';
 import { Error } from '../../hooks/errors/useErrors';
-import { Platform, ShareContent } from 'react-native';
+import { NativeModules, ShareContent } from 'react-native';
+
+// Buffered, size-capped file logger, only available on Android; iOS falls back to react-native-fs
+const RNLogger = NativeModules.RNLogger;
 
 const path = `${CachesDirectoryPath}/homebase-id-app-logs.txt`;
+const rotatedPath = `${CachesDirectoryPath}/homebase-id-app-logs.1.txt`;
+const exportPath = `${CachesDirectoryPath}/homebase-id-app-logs-export.txt`;
+
+type LogLevel = 'info' | 'warn' | 'error';
+const LOG_LEVELS: Record<LogLevel, number> = { info: 0, warn: 1, error: 2 };
+const ERROR_LOG_LEVELS: Record<Error['type'], LogLevel> = {
+  info: 'info',
+  warning: 'warn',
+  critical: 'error',
+};
+let minLogLevel: LogLevel = 'info';
+
+const FLUSH_DELAY_MS = 250;
+const MAX_PENDING_LINES = 500;
+const MAX_LINE_LENGTH = 64 * 1024;
+// Only used by the react-native-fs fallback; RNLogger rotates its own files
+const MAX_FILE_SIZE = 512 * 1024;
+
+let pendingLines: string[] = [];
+let droppedLines = 0;
+let flushTimeout: ReturnType<typeof setTimeout> | undefined;
+let urgentFlush = false;
+let fileWrites: Promise<void> = Promise.resolve();
+
+export const setLogLevel = (logLevel: LogLevel) => {
+  minLogLevel = logLevel;
+};
 
-export const addLogs = async (
-  error: Error | string,
-  logLevel: 'info' | 'warn' | 'error' = 'info'
-) => {
-  const err = (() => {
-    const dateStr = new Date().toISOString();
-    if (typeof error === 'string') {
-      return `${logLevel.toUpperCase()} ${dateStr}: ${error}\n`;
+const isLogLevelEnabled = (logLevel: LogLevel) => LOG_LEVELS[logLevel] >= LOG_LEVELS[minLogLevel];
+
+const getFileSize = async (filePath: string) => {
+  try {
+    return (await stat(filePath)).size;
+  } catch {
+    return 0;
+  }
+};
+
+const rotateLogFile = async () => {
+  if (await exists(rotatedPath)) {
+    await unlink(rotatedPath);
+  }
+  await moveFile(path, rotatedPath);
+};
+
+// Append to the current log file, rotating it before it grows past MAX_FILE_SIZE
+// (approximately, as line lengths are counted in characters rather than bytes)
+const appendToLogFile = async (lines: string[]) => {
+  let size = await getFileSize(path);
+  let chunk = '';
+  for (const line of lines) {
+    if (size + chunk.length > 0 && size + chunk.length + line.length > MAX_FILE_SIZE) {
+      if (chunk) await appendFile(path, chunk);
+      await rotateLogFile();
+      size = 0;
+      chunk = '';
     }
+    chunk += line;
+  }
+  if (chunk) await appendFile(path, chunk);
+};
+
+// Send everything that's pending to the native side (or disk) in a single call
+const flushLogs = async (urgent = false) => {
+  if (flushTimeout) {
+    clearTimeout(flushTimeout);
+    flushTimeout = undefined;
+  }
+  urgentFlush = false;
+  if (droppedLines) {
+    // Lines are only dropped once the queue is full, so they came after everything that's pending
+    pendingLines.push(
+      `WARN ${new Date().toISOString()}: [Logger] Dropped ${droppedLines} log lines\n`
+    );
+    droppedLines = 0;
+  }
+  if (!pendingLines.length) return fileWrites;
 
-    return `${logLevel.toUpperCase()} ${dateStr}: ${converErrorToLog(error)}\n`;
-  })();
+  const lines = pendingLines;
+  pendingLines = [];
+  if (RNLogger) {
+    RNLogger.appendLines(lines, urgent);
+    return;
+  }
+
+  // Chained, so rotation never races with another flush
+  fileWrites = fileWrites
+    .then(() => appendToLogFile(lines))
+    .catch((e) => console.error('[Logger]', 'Failed to write logs', e));
+  return fileWrites;
+};
 
-  if (!(await exists(path))) {
-    return writeFile(path, err);
+const scheduleFlush = (urgent: boolean) => {
+  if (flushTimeout) {
+    if (!urgent || urgentFlush) return;
+    clearTimeout(flushTimeout);
   }
-  return appendFile(path, err);
+
+  urgentFlush = urgent;
+  flushTimeout = setTimeout(() => flushLogs(urgent), urgent ? 0 : FLUSH_DELAY_MS);
+};
+
+// Callers must check the log level first, so filtered logs are never formatted
+const writeLog = (log: string, logLevel: LogLevel) => {
+  if (pendingLines.length >= MAX_PENDING_LINES) {
+    droppedLines++;
+    return;
+  }
+
+  const message =
+    log.length > MAX_LINE_LENGTH ? `${log.slice(0, MAX_LINE_LENGTH)}... (truncated)` : log;
+  const dateStr = new Date().toISOString();
+  pendingLines.push(`${logLevel.toUpperCase()} ${dateStr}: ${message}\n`);
+
+  // Errors are most useful right before a crash, so they skip the batching delay;
+  // everything logged in the same tick still goes out in a single flush
+  scheduleFlush(logLevel === 'error');
+};
+
+/**
+ * @param logLevel Defaults to the level matching the error's type, or 'info' for plain strings
+ */
+export const addLogs = (error: Error | string, logLevel?: LogLevel) => {
+  const level = logLevel || (typeof error === 'string' ? 'info' : ERROR_LOG_LEVELS[error.type]);
+  if (!isLogLevelEnabled(level)) return;
+
+  writeLog(typeof error === 'string' ? error : converErrorToLog(error), level);
 };
 
 export const getLogs = async () => {
-  if (await exists(path)) {
-    return `file://${path}`;
+  await flushLogs();
+  if (RNLogger) {
+    const nativeExportPath: string | null = await RNLogger.exportLogs();
+    return nativeExportPath ? `file://${nativeExportPath}` : undefined;
   }
-  return;
+
+  if (!(await exists(path))) return;
+  if (!(await exists(rotatedPath))) return `file://${path}`;
+
+  // Merge the rotated file in, oldest first, so the logs can be shared as a single file
+  await writeFile(exportPath, (await readFile(rotatedPath)) + (await readFile(path)));
+  return `file://${exportPath}`;
 };
 
+// Logs are always shared as a file, they can be too large to pass along as a message
 export const shareLogs = async (): Promise<ShareContent | null> => {
   const logsPath = await getLogs();
 
   if (!logsPath) return null;
 
-  if (Platform.OS === 'ios') {
-    return { url: logsPath };
-  }
-
-  return { message: await readFile(logsPath) };
+  return { url: logsPath };
 };
 
 export const clearLogs = async () => {
+  pendingLines = [];
+  droppedLines = 0;
+  await flushLogs();
+  if (RNLogger) {
+    return RNLogger.clearLogs();
+  }
+
+  if (await exists(rotatedPath)) {
+    await unlink(rotatedPath);
+  }
+  if (await exists(exportPath)) {
+    await unlink(exportPath);
+  }
   if (await exists(path)) {
     return writeFile(path, '');
   }
@@ -75,10 +214,19 @@ const parseArgToString = (arg: Error | string | number | object | undefined | un
   return arg;
 };
 
+const logArgs = (
+  logLevel: LogLevel,
+  args: (Error | string | number | object | undefined | unknown)[]
+) => {
+  // Checked before stringifying the args, so filtered logs cost next to nothing
+  if (!isLogLevelEnabled(logLevel)) return;
+
+  writeLog(parseArgsToString(args), logLevel);
+};
+
 export default {
-  Log: (...args: (string | number | object | undefined)[]) => addLogs(parseArgsToString(args)),
-  Warn: (...args: (string | number | object | undefined)[]) =>
-    addLogs(parseArgsToString(args), 'warn'),
+  Log: (...args: (string | number | object | undefined)[]) => logArgs('info', args),
+  Warn: (...args: (string | number | object | undefined)[]) => logArgs('warn', args),
   Error: (...args: (Error | string | number | object | undefined | unknown)[]) =>
-    addLogs(parseArgsToString(args), 'error'),
+    logArgs('error', args),
 };